@@ -1,5 +1,7 @@
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
 import javax.swing.JButton;
 import javax.swing.JMenuItem;
 
@@ -24,15 +26,26 @@ import javax.swing.JMenuItem;
  * in the format "[x, y]" and returns the
  * corresponding integer coordinates as an array.
  * 
+ * Every event can also be written to a session log, one event name per line,
+ * so a played session can be replayed later by the Simulation driver.
+ * 
  * @author Arun Karki
  * @version April 2, 2023
  */
 
 public class Client implements ActionListener {
 
-    // main calling stuff for now
+    // main calling stuff for now; an optional file name records the session
     public static void main(String[] args) {
         Client client = new Client(new UI(), new GameLogic());
+        if (args.length > 0) {
+            try {
+                client.recordSession(new PrintWriter(args[0]));
+                System.out.println("recording session to " + args[0]);
+            } catch (FileNotFoundException e) {
+                System.out.println("can't record session: " + e.getMessage());
+            }
+        }
         System.out.println("up and running...");
     }
 
@@ -48,6 +61,9 @@ public class Client implements ActionListener {
     // the GameLogic class instance for communication
     private GameLogic model;
 
+    // where events are recorded, null when not recording
+    private PrintWriter sessionLog;
+
     /**
      * The Client constructor method for constructing the framework.
      * Initalize the game and set up the board.
@@ -99,6 +115,14 @@ public class Client implements ActionListener {
      */
     public void actionPerformed(ActionEvent event) {
 
+        // record the event before handling it; quitting never returns.
+        // events from anything other than the board or menu can't be replayed
+        String eventName = getEventName(event.getSource());
+        if (sessionLog != null && eventName != null) {
+            sessionLog.println(eventName);
+            sessionLog.flush();
+        }
+
         // all buttons; so all placements on board for our purposes
         if (event.getSource().getClass() == JButton.class) {
             // get button clicked
@@ -164,6 +188,61 @@ public class Client implements ActionListener {
         }
     }
 
+    /**
+     * Start writing every event to a session log, one event name per line.
+     * 
+     * @param log Where to write the events; null to stop recording
+     */
+    public void recordSession(PrintWriter log) {
+        this.sessionLog = log;
+    }
+
+    /**
+     * Return the name of an event's source as written to a session log.
+     * Buttons use their coordinate name "[x, y]", menu items "menu i" where i is
+     * their index in the menu.
+     * 
+     * @param source The JButton or JMenuItem that caused the event
+     * @return The name of the event, or null if the source isn't known
+     */
+    public String getEventName(Object source) {
+        if (source instanceof JButton)
+            return ((JButton) source).getName();
+        for (int i = 0; i < menuItems.length; i++) {
+            if (source == menuItems[i])
+                return "menu " + i;
+        }
+        return null;
+    }
+
+    /**
+     * Return true if a string names an event that can be in a session log: a
+     * square on the board "[x, y]" or a menu item "menu i".
+     * 
+     * @param name The string to check
+     * @return true if it is a valid event name; false otherwise.
+     */
+    public static boolean isEventName(String name) {
+        return name.matches("\\[[0-2], [0-2]\\]") || name.matches("menu [0-3]");
+    }
+
+    /**
+     * Return the JButton or JMenuItem named by an event in a session log; the
+     * reverse of getEventName.
+     * 
+     * @param name The name of the event, "[x, y]" or "menu i"
+     * @return The JButton or JMenuItem that the event came from
+     * @throws IllegalArgumentException if the name isn't a valid event name
+     */
+    public Object getEventSource(String name) {
+        if (!isEventName(name))
+            throw new IllegalArgumentException("not an event: \"" + name + "\"");
+        if (name.startsWith("menu "))
+            return menuItems[Integer.parseInt(name.substring(5))];
+        int[] coordinate = getCoordinatesFromString(name);
+        return board[coordinate[0]][coordinate[1]];
+    }
+
     /**
      * Take a string "[x, y]" and output it in an array form [x, y].
      * Used to find the coordinate of a JButton.
@@ -0,0 +1,361 @@
+import java.awt.event.ActionEvent;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import javax.swing.JButton;
+
+/**
+ * The Simulation class drives the game without a screen, for load-testing and
+ * for tracking down slow events.
+ *
+ * It builds the usual UI, GameLogic and Client with a headless toolkit and
+ * feeds events straight into Client.actionPerformed, so every event goes
+ * through the same path as a real click (setLabel, getGameEnded, status and
+ * statistics updates) but at full speed. Events are either generated from a
+ * seeded random stream or read from a session log, such as one recorded by
+ * running "java Client session.txt".
+ *
+ * Every event is timed. The session is first played through a number of
+ * warm-up passes that aren't reported (class loading and the JIT make the
+ * first events much slower), then played again a number of times on a fresh
+ * game and the median time of each event is kept. The session and the
+ * per-event timings can be written to files, so the same session can be
+ * replayed on two builds and the timings compared to bisect a latency
+ * regression.
+ *
+ * Usage:
+ * java Simulation random [seed] [events] [session file] [timings file] [options]
+ * java Simulation replay [session file] [timings file] [options]
+ * where options are --warmup N (default 1) and --repeat N (default 3)
+ *
+ * @version October 19, 2026
+ */
+
+public class Simulation {
+
+    // event name of the quit menu item, which would end the simulation
+    public static final String QUIT_EVENT = "menu 3";
+
+    // timing recorded for an event that Swing would never have delivered
+    public static final long SKIPPED = -1;
+
+    // the game being driven
+    private Client client;
+    private UI view;
+    private GameLogic model;
+
+    // names of the events fed in so far, and how long each one took
+    private ArrayList<String> events = new ArrayList<String>();
+    private ArrayList<Long> timings = new ArrayList<Long>();
+
+    /**
+     * The Simulation constructor method for constructing the simulation.
+     * Build a fresh game to feed events to.
+     */
+    public Simulation() {
+        reset();
+    }
+
+    /**
+     * Throw away the game and the events fed in so far and build a fresh game,
+     * so a session can be played again from the same starting state.
+     */
+    public void reset() {
+        // the first player is shared by every game, and a session may swap it
+        GameLogic.DEFAULT_PLAYER = GameLogic.PLAYER_X;
+        this.view = new UI();
+        this.model = new GameLogic();
+        this.client = new Client(view, model);
+        events.clear();
+        timings.clear();
+    }
+
+    /**
+     * Feed a single event into the game and time how long it takes to handle.
+     * Clicks on a disabled button are kept in the session but not handled, as
+     * Swing never delivers them; quit events are kept the same way, as they
+     * would end the simulation.
+     *
+     * @param name The name of the event, "[x, y]" or "menu i"
+     */
+    public void dispatch(String name) {
+        Object source = client.getEventSource(name);
+        if (name.equals(QUIT_EVENT) || (source instanceof JButton && !((JButton) source).isEnabled())) {
+            events.add(name);
+            timings.add(SKIPPED);
+            return;
+        }
+
+        ActionEvent event = new ActionEvent(source, ActionEvent.ACTION_PERFORMED, name);
+        long start = System.nanoTime();
+        client.actionPerformed(event);
+        long elapsed = System.nanoTime() - start;
+
+        events.add(name);
+        timings.add(elapsed);
+    }
+
+    /**
+     * Play a seeded random stream of events. Squares are clicked at random,
+     * taken ones included, a new game is started whenever one ends, and every
+     * so often the first player is swapped or the stats are reset.
+     *
+     * @param seed  The seed of the random stream; the same seed plays the same
+     *              session
+     * @param count The number of events to play
+     */
+    public void playRandom(long seed, int count) {
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            if (model.getGameEnded())
+                dispatch("menu 0"); // new game
+            else if (random.nextInt(100) == 0)
+                dispatch("menu 1"); // swap 1st player
+            else if (random.nextInt(200) == 0)
+                dispatch("menu 2"); // reset stats
+            else
+                dispatch("[" + random.nextInt(3) + ", " + random.nextInt(3) + "]");
+        }
+    }
+
+    /**
+     * Feed every event of a session into the game, in order.
+     *
+     * @param session The names of the events to play
+     */
+    public void replay(ArrayList<String> session) {
+        for (int i = 0; i < session.size(); i++) {
+            dispatch(session.get(i));
+        }
+    }
+
+    /**
+     * Read a session log, one event name per line. Blank lines are ignored.
+     *
+     * @param fileName The session log to read
+     * @return The names of the events in the session
+     * @throws IOException if the file can't be read or a line isn't an event
+     */
+    public static ArrayList<String> readSession(String fileName) throws IOException {
+        ArrayList<String> session = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String name = line.trim();
+                if (name.isEmpty())
+                    continue;
+                if (!Client.isEventName(name))
+                    throw new IOException(fileName + ":" + lineNumber + ": not an event: \"" + name + "\"");
+                session.add(name);
+            }
+        } finally {
+            reader.close();
+        }
+        return session;
+    }
+
+    /**
+     * Return the names of the events fed in so far.
+     *
+     * @return A copy of the events, usable as a session
+     */
+    public ArrayList<String> getEvents() {
+        return new ArrayList<String>(events);
+    }
+
+    /**
+     * Return how long each event fed in so far took, SKIPPED for events that
+     * weren't delivered.
+     *
+     * @return The time of each event in nanoseconds
+     */
+    public long[] getTimings() {
+        long[] times = new long[timings.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = timings.get(i);
+        }
+        return times;
+    }
+
+    /**
+     * Replace the timings with the median time of each event over several
+     * passes of the same session. A session always skips the same events, so
+     * skipped events stay skipped.
+     *
+     * @param runs The timings of each pass, as returned by getTimings
+     */
+    public void useMedians(long[][] runs) {
+        long[] times = new long[runs.length];
+        for (int i = 0; i < timings.size(); i++) {
+            for (int r = 0; r < runs.length; r++) {
+                times[r] = runs[r][i];
+            }
+            Arrays.sort(times);
+            timings.set(i, times[runs.length / 2]);
+        }
+    }
+
+    /**
+     * Write the events fed in so far as a session log that replay can read.
+     *
+     * @param fileName The file to write
+     * @throws IOException if the file can't be written
+     */
+    public void writeSession(String fileName) throws IOException {
+        PrintWriter writer = new PrintWriter(fileName);
+        for (int i = 0; i < events.size(); i++) {
+            writer.println(events.get(i));
+        }
+        writer.close();
+    }
+
+    /**
+     * Write the time of every event, one tab separated "index, event, nanos"
+     * line each, so two runs of the same session can be compared line by line.
+     * Events that weren't delivered show "skipped" instead of a time.
+     *
+     * @param fileName The file to write
+     * @throws IOException if the file can't be written
+     */
+    public void writeTimings(String fileName) throws IOException {
+        PrintWriter writer = new PrintWriter(fileName);
+        for (int i = 0; i < events.size(); i++) {
+            long time = timings.get(i);
+            writer.println(i + "\t" + events.get(i) + "\t" + (time == SKIPPED ? "skipped" : String.valueOf(time)));
+        }
+        writer.close();
+    }
+
+    /**
+     * Print a summary of the run: event count, total time, the spread of event
+     * times and the slowest event, followed by the final status and statistics
+     * so two replays of the same session can be checked to end the same way.
+     */
+    public void printSummary() {
+        // only events that were delivered count towards the timings
+        int count = 0;
+        for (int i = 0; i < timings.size(); i++) {
+            if (timings.get(i) != SKIPPED)
+                count++;
+        }
+        if (count == 0) {
+            System.out.println("simulation: no events");
+            return;
+        }
+
+        long[] sorted = new long[count];
+        long total = 0;
+        int slowest = -1;
+        int n = 0;
+        for (int i = 0; i < timings.size(); i++) {
+            long time = timings.get(i);
+            if (time == SKIPPED)
+                continue;
+            sorted[n++] = time;
+            total += time;
+            if (slowest == -1 || time > timings.get(slowest))
+                slowest = i;
+        }
+        Arrays.sort(sorted);
+
+        System.out.printf("simulation: %d events in %.1f ms, %.0f events/sec%n", count, total / 1e6,
+                count / (total / 1e9));
+        System.out.printf("simulation: mean %d ns, p50 %d ns, p90 %d ns, p99 %d ns, max %d ns%n", total / count,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[count - 1]);
+        System.out.println("simulation: " + (timings.size() - count) + " events skipped (disabled button or quit)");
+        System.out.println("simulation: slowest event #" + slowest + " " + events.get(slowest));
+        System.out.println("simulation: final status \"" + view.getStatus().trim() + "\"");
+        System.out.println("simulation: final stats \"" + view.getStatistics().trim() + "\"");
+    }
+
+    /**
+     * Return the value at a given percentile of a sorted array.
+     *
+     * @param sorted  The values, sorted from low to high
+     * @param percent The percentile, 0 to 100
+     * @return The value at that percentile
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    // run a random or replayed simulation, see the class comment for usage
+    public static void main(String[] args) throws IOException {
+        // must be set before any Swing class is touched
+        System.setProperty("java.awt.headless", "true");
+
+        // pull out the options; everything else is positional
+        int warmups = 1;
+        int repeats = 3;
+        ArrayList<String> positional = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--warmup") && i + 1 < args.length)
+                warmups = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--repeat") && i + 1 < args.length)
+                repeats = Math.max(1, Integer.parseInt(args[++i]));
+            else
+                positional.add(args[i]);
+        }
+
+        String mode = positional.size() > 0 ? positional.get(0) : "random";
+        String timingsFile = null;
+        Simulation simulation;
+        ArrayList<String> session;
+
+        if (mode.equals("random")) {
+            long seed = positional.size() > 1 ? Long.parseLong(positional.get(1)) : 42;
+            int count = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 1000;
+            // the random pass only makes the session; it is timed again below
+            simulation = new Simulation();
+            simulation.playRandom(seed, count);
+            session = simulation.getEvents();
+            if (positional.size() > 3)
+                simulation.writeSession(positional.get(3));
+            if (positional.size() > 4)
+                timingsFile = positional.get(4);
+        } else if (mode.equals("replay") && positional.size() > 1) {
+            try {
+                session = readSession(positional.get(1));
+            } catch (IOException e) {
+                System.out.println("simulation: " + e.getMessage());
+                return;
+            }
+            simulation = new Simulation();
+            if (positional.size() > 2)
+                timingsFile = positional.get(2);
+        } else {
+            System.out.println("usage: java Simulation random [seed] [events] [session file] [timings file] [options]");
+            System.out.println("       java Simulation replay [session file] [timings file] [options]");
+            System.out.println("options: --warmup N (default 1), --repeat N (default 3)");
+            return;
+        }
+
+        // warm up class loading and the JIT; these passes aren't reported
+        for (int w = 0; w < warmups; w++) {
+            simulation.reset();
+            simulation.replay(session);
+        }
+
+        // time the session several times on a fresh game, keep each event's median
+        long[][] runs = new long[repeats][];
+        for (int r = 0; r < repeats; r++) {
+            simulation.reset();
+            simulation.replay(session);
+            runs[r] = simulation.getTimings();
+        }
+        simulation.useMedians(runs);
+
+        if (timingsFile != null)
+            simulation.writeTimings(timingsFile);
+        System.out.println("simulation: median of " + repeats + " passes after " + warmups + " warm-up passes");
+        simulation.printSummary();
+    }
+}
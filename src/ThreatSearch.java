@@ -0,0 +1,351 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ThreatSearch class looks for forced wins on a k-in-a-row board using the
+ * threat index kept by ThreatTracker.
+ *
+ * The search only plays threat moves: every attacking move must leave an open
+ * window one stone short of k, so the defender has exactly one reply (the gap)
+ * or loses. Moves that make two such gaps at once win outright. Because the
+ * defender never has a choice the tree stays narrow and can be searched much
+ * deeper than a full game tree. If the defender already has a winning square
+ * the attacker is only allowed to threaten by blocking it.
+ *
+ * Depth counts the threat moves played before the winning move: a win that
+ * is already on the board is depth 0, a double threat made from scratch is
+ * depth 1. The search deepens one threat move at a time, so the first win
+ * found is also the shortest.
+ *
+ * @version October 19, 2026
+ */
+
+public class ThreatSearch {
+
+    // the board being searched; moves are made and undone on it
+    private ThreatTracker tracker;
+
+    // stamp per square, used to skip repeated candidate squares in a node
+    private int[][] seen;
+    private int stamp;
+
+    // number of positions visited by the last search
+    private long nodes;
+
+    // number of threat moves before the winning move in the last win found;
+    // -1 if none
+    private int depth;
+
+    // first attacking move of the last win found
+    private int[] bestMove;
+
+    /**
+     * The ThreatSearch constructor method for constructing the search.
+     *
+     * @param tracker The threat index of the board to search
+     */
+    public ThreatSearch(ThreatTracker tracker) {
+        this.tracker = tracker;
+        this.seen = new int[tracker.getSize()][tracker.getSize()];
+    }
+
+    /**
+     * Look for a forced win for the attacker, trying an immediate win first,
+     * then 1 threat move, then 2, and so on up to maxDepth. The board is left
+     * as it was found.
+     *
+     * @param attacker X or O, the player to move
+     * @param maxDepth The most threat moves to look ahead
+     * @return The [row, col] of the first winning move, or null if none found
+     */
+    public int[] findForcedWin(int attacker, int maxDepth) {
+        nodes = 0;
+        depth = -1;
+        bestMove = null;
+
+        for (int d = 0; d <= maxDepth; d++) {
+            if (search(attacker, d, true)) {
+                depth = d;
+                return bestMove;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return true if the attacker can force a win within the given number of
+     * threat moves from this position.
+     *
+     * @param attacker X or O, the player to move
+     * @param left     The number of threat moves left
+     * @param root     true at the top of the tree, where the move is recorded
+     * @return true if a forced win exists; false otherwise.
+     */
+    private boolean search(int attacker, int left, boolean root) {
+        nodes++;
+        int defender = 1 - attacker;
+        int k = tracker.getK();
+
+        // a square that wins right away
+        int[][] wins = tracker.getWinningSquares(attacker);
+        if (wins.length > 0) {
+            if (root)
+                bestMove = wins[0];
+            return true;
+        }
+        if (left == 0)
+            return false;
+
+        // if the defender threatens to win we have to block that square
+        int[] mustBlock = null;
+        int[][] defenderWins = tracker.getWinningSquares(defender);
+        for (int i = 0; i < defenderWins.length; i++) {
+            if (mustBlock == null)
+                mustBlock = defenderWins[i];
+            else if (mustBlock[0] != defenderWins[i][0] || mustBlock[1] != defenderWins[i][1])
+                return false; // two different squares to block; can't threaten through
+        }
+
+        // squares that make a new threat, each kept once
+        int[][] candidates = tracker.gapsOf(attacker, k - 2);
+        int count = 0;
+        stamp++;
+        for (int i = 0; i < candidates.length; i++) {
+            int row = candidates[i][0];
+            int col = candidates[i][1];
+            if (seen[row][col] == stamp)
+                continue;
+            seen[row][col] = stamp;
+            if (mustBlock != null && (row != mustBlock[0] || col != mustBlock[1]))
+                continue;
+            candidates[count++] = candidates[i];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int row = candidates[i][0];
+            int col = candidates[i][1];
+
+            tracker.place(row, col, attacker);
+            boolean won = reply(attacker, left);
+            tracker.remove(row, col);
+
+            if (won) {
+                if (root)
+                    bestMove = new int[] { row, col };
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Play the defender's forced reply to an attacking move and keep searching.
+     *
+     * @param attacker X or O, the player who just threatened
+     * @param left     The number of threat moves left, including the one just
+     *                 played
+     * @return true if the attacking move leads to a forced win; false otherwise.
+     */
+    private boolean reply(int attacker, int left) {
+        int defender = 1 - attacker;
+        int[][] gaps = tracker.getWinningSquares(attacker);
+
+        // two different gaps can't both be blocked
+        for (int i = 1; i < gaps.length; i++) {
+            if (gaps[i][0] != gaps[0][0] || gaps[i][1] != gaps[0][1])
+                return true;
+        }
+
+        int row = gaps[0][0];
+        int col = gaps[0][1];
+        boolean lost = tracker.place(row, col, defender);
+        boolean won = !lost && search(attacker, left - 1, false);
+        tracker.remove(row, col);
+        return won;
+    }
+
+    /**
+     * Return the number of positions visited by the last search.
+     *
+     * @return The node count
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Return the number of threat moves played before the winning move in the
+     * last win found; 0 if the attacker could win at once.
+     *
+     * @return The depth of the win, or -1 if no win was found
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Time place and remove calls separately. Each round fills the whole board
+     * in a shuffled order and then empties it in another; the orders are made
+     * before the clock starts so only the tracker is timed.
+     *
+     * @param size    The board size
+     * @param k       The number of stones in a row needed to win
+     * @param updates About how many calls of each kind to make
+     * @param seed    The seed for the shuffled orders
+     * @return The average time of one place and one remove in nanoseconds
+     */
+    private static double[] timeUpdates(int size, int k, int updates, long seed) {
+        ThreatTracker tracker = new ThreatTracker(size, k);
+        int squares = size * size;
+        int rounds = Math.max(1, updates / squares);
+
+        // a few shuffled orders of the squares, reused round after round
+        Random random = new Random(seed);
+        int[][] orders = new int[8][squares];
+        for (int o = 0; o < orders.length; o++) {
+            for (int i = 0; i < squares; i++) {
+                orders[o][i] = i;
+            }
+            for (int i = squares - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = orders[o][i];
+                orders[o][i] = orders[o][j];
+                orders[o][j] = swap;
+            }
+        }
+
+        long placeTime = 0;
+        long removeTime = 0;
+        for (int r = 0; r < rounds; r++) {
+            int[] fill = orders[r % orders.length];
+            int[] empty = orders[(r + 1) % orders.length];
+
+            long start = System.nanoTime();
+            for (int i = 0; i < squares; i++) {
+                tracker.place(fill[i] / size, fill[i] % size, i & 1);
+            }
+            placeTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < squares; i++) {
+                tracker.remove(empty[i] / size, empty[i] % size);
+            }
+            removeTime += System.nanoTime() - start;
+        }
+        long calls = (long) rounds * squares;
+        return new double[] { (double) placeTime / calls, (double) removeTime / calls };
+    }
+
+    // print one line of update timings, the median of a few runs to keep noise down
+    private static void printUpdates(int size, int k, long seed) {
+        int runs = 5;
+        double[] place = new double[runs];
+        double[] remove = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            double[] time = timeUpdates(size, k, 1000000, seed + i);
+            place[i] = time[0];
+            remove[i] = time[1];
+        }
+        Arrays.sort(place);
+        Arrays.sort(remove);
+        System.out.printf("update: size %3d, k %d: place %5.1f ns, remove %5.1f ns%n", size, k, place[runs / 2],
+                remove[runs / 2]);
+    }
+
+    /**
+     * Benchmark the threat index and the search. Reports the cost of a single
+     * place and remove, first over several board sizes at a fixed k and then
+     * over several values of k on a large board. Each update touches O(k)
+     * windows; the size sweep also shows cache and edge effects, which make
+     * larger boards somewhat slower. Then runs the search on seeded random positions where the
+     * side to move has no immediate win, and reports the wins found, their
+     * depth and nodes/sec.
+     *
+     * Usage: java ThreatSearch [size] [k] [positions] [maxDepth] [seed]
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int maxDepth = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        // warm up the JIT before anything is reported
+        for (int i = 0; i < 3; i++) {
+            timeUpdates(size, k, 2000000, seed);
+        }
+
+        // an update visits the same O(k) windows on any board, but bigger
+        // boards are slower from cache misses and fewer windows cut off by edges
+        int[] sizes = { 9, 15, 19, 31, 63 };
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] >= k)
+                printUpdates(sizes[i], k, seed);
+        }
+        // the number of windows visited grows with k; use a board big enough
+        // that windows cut short by the edges don't hide that
+        int[] ks = { 3, 5, 7, 9 };
+        for (int i = 0; i < ks.length; i++) {
+            printUpdates(63, ks[i], seed);
+        }
+
+        // forced win search on random middle-game positions
+        ThreatTracker tracker = new ThreatTracker(size, k);
+        ThreatSearch search = new ThreatSearch(tracker);
+        Random random = new Random(seed);
+        int searched = 0;
+        int skipped = 0;
+        int found = 0;
+        int deepest = 0;
+        int[] byDepth = new int[maxDepth + 1];
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        while (searched < positions) {
+            tracker.clear();
+            int stones = size + random.nextInt(size * 2);
+            int player = ThreatTracker.X;
+            // random stones near the centre, stopping short of a finished game
+            for (int s = 0; s < stones; s++) {
+                int row = size / 2 + random.nextInt(size / 2 + 1) - size / 4;
+                int col = size / 2 + random.nextInt(size / 2 + 1) - size / 4;
+                if (tracker.getCell(row, col) != -1)
+                    continue;
+                if (tracker.place(row, col, player)) {
+                    tracker.remove(row, col);
+                    continue;
+                }
+                player = 1 - player;
+            }
+
+            // a win on the next move needs no search; only count positions
+            // where at least one threat has to be played
+            if (tracker.getOpenWindows(player, k - 1) > 0) {
+                skipped++;
+                continue;
+            }
+            searched++;
+
+            long start = System.nanoTime();
+            int[] move = search.findForcedWin(player, maxDepth);
+            totalTime += System.nanoTime() - start;
+            totalNodes += search.getNodes();
+
+            if (move != null) {
+                found++;
+                byDepth[search.getDepth()]++;
+                deepest = Math.max(deepest, search.getDepth());
+            }
+        }
+
+        System.out.printf("search: size %d, k %d, %d positions, max depth %d%n", size, k, searched, maxDepth);
+        System.out.printf("search: %d positions with a win on the next move skipped%n", skipped);
+        System.out.printf("search: %d forced wins found, deepest %d threat moves%n", found, deepest);
+        for (int d = 0; d <= maxDepth; d++) {
+            if (byDepth[d] > 0)
+                System.out.printf("search:   depth %d: %d%n", d, byDepth[d]);
+        }
+        System.out.printf("search: %d nodes in %.1f ms, %.0f nodes/sec%n", totalNodes, totalTime / 1e6,
+                totalNodes / (totalTime / 1e9));
+    }
+}
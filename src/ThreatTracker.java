@@ -0,0 +1,351 @@
+/**
+ * The ThreatTracker class keeps an incremental index of threats on a k-in-a-row
+ * board. A threat is a window of k consecutive squares (a row, column or
+ * diagonal segment) that holds stones of only one player.
+ *
+ * Every window stores how many X and O stones it holds. When a stone is placed
+ * or removed only the windows running through that square in the four
+ * directions are touched, so each update costs O(k) instead of rescanning the
+ * whole board.
+ *
+ * The tracker also keeps every open window (one with no enemy stones) in a
+ * linked list per player and per stone count. Questions such as "how many open
+ * fours does X have" are answered in constant time, and the squares that make
+ * or complete a threat are found by walking only the windows in one list.
+ *
+ * @version October 19, 2026
+ */
+
+public class ThreatTracker {
+
+    // the four directions through a square: row, column, diagonal, anti-diagonal
+    public static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+
+    // indexes used for the two players in the arrays below
+    public static final int X = 0;
+    public static final int O = 1;
+
+    // board dimension and the number in a row needed to win
+    private int size;
+    private int k;
+
+    // stone on each square: -1 = empty, X or O otherwise
+    private int[][] cells;
+
+    // number of stones each player has in a window; [player][window]
+    private int[][] windowCount;
+
+    // true if the window fits on the board; [window]
+    private boolean[] windowValid;
+
+    // number of open windows (no enemy stones) with a given stone count;
+    // [player][count]
+    private int[][] openWindows;
+
+    // open windows of each player, in a doubly linked list per stone count.
+    // head is [player][count], next and prev are [player][window]; -1 ends a list
+    private int[][] head;
+    private int[][] next;
+    private int[][] prev;
+
+    // number of windows that have been completed by each player
+    private int[] completed;
+
+    // number of stones on the board
+    private int stones;
+
+    /**
+     * The ThreatTracker constructor method for constructing the tracker.
+     * Build the window index for an empty board.
+     *
+     * @param size The width and height of the square board
+     * @param k    The number of stones in a row needed to win, at least 2 so
+     *             that a threat (one stone short of k) can exist
+     */
+    public ThreatTracker(int size, int k) {
+        if (size < 2 || k < 2 || k > size)
+            throw new IllegalArgumentException("invalid board: size " + size + ", k " + k);
+
+        this.size = size;
+        this.k = k;
+        this.cells = new int[size][size];
+        this.windowCount = new int[2][DIRECTIONS.length * size * size];
+        this.windowValid = new boolean[DIRECTIONS.length * size * size];
+        this.openWindows = new int[2][k + 1];
+        this.head = new int[2][k + 1];
+        this.next = new int[2][DIRECTIONS.length * size * size];
+        this.prev = new int[2][DIRECTIONS.length * size * size];
+        this.completed = new int[2];
+
+        // a window is named by its direction and starting square
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + DIRECTIONS[d][0] * (k - 1);
+                    int endCol = col + DIRECTIONS[d][1] * (k - 1);
+                    windowValid[window(d, row, col)] = inside(endRow, endCol);
+                }
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Mark every square as empty and reset all window counts.
+     */
+    public void clear() {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row][col] = -1;
+            }
+        }
+        for (int p = X; p <= O; p++) {
+            for (int c = 0; c <= k; c++) {
+                openWindows[p][c] = 0;
+                head[p][c] = -1;
+            }
+            completed[p] = 0;
+        }
+        // every window is empty, so it is open for both players
+        for (int w = 0; w < windowValid.length; w++) {
+            windowCount[X][w] = 0;
+            windowCount[O][w] = 0;
+            if (windowValid[w]) {
+                link(X, 0, w);
+                link(O, 0, w);
+            }
+        }
+        stones = 0;
+    }
+
+    /**
+     * Place a stone on the board and update every window that runs through it.
+     *
+     * @param row    The row of the square
+     * @param col    The column of the square
+     * @param player X or O
+     * @return true if the stone completed k in a row; false otherwise.
+     */
+    public boolean place(int row, int col, int player) {
+        if (cells[row][col] != -1)
+            throw new IllegalStateException("square [" + row + ", " + col + "] is taken");
+
+        cells[row][col] = player;
+        stones++;
+        int before = completed[player];
+        update(row, col, player, 1);
+        return completed[player] > before;
+    }
+
+    /**
+     * Take a stone back off the board. Used by the search to undo moves.
+     *
+     * @param row The row of the square
+     * @param col The column of the square
+     */
+    public void remove(int row, int col) {
+        int player = cells[row][col];
+        if (player == -1)
+            throw new IllegalStateException("square [" + row + ", " + col + "] is empty");
+
+        update(row, col, player, -1);
+        cells[row][col] = -1;
+        stones--;
+    }
+
+    /**
+     * Add or take away a stone from each window through a square, keeping the
+     * open window lists in step. Only the k windows per direction that contain
+     * the square are visited.
+     *
+     * @param row    The row of the square
+     * @param col    The column of the square
+     * @param player X or O
+     * @param delta  1 when placing, -1 when removing
+     */
+    private void update(int row, int col, int player, int delta) {
+        int enemy = 1 - player;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            // walk back to each possible start of a window holding this square
+            for (int i = 0; i < k; i++) {
+                int startRow = row - DIRECTIONS[d][0] * i;
+                int startCol = col - DIRECTIONS[d][1] * i;
+                if (!inside(startRow, startCol))
+                    break;
+                int w = window(d, startRow, startCol);
+                if (!windowValid[w])
+                    continue;
+
+                int mine = windowCount[player][w];
+                int theirs = windowCount[enemy][w];
+
+                // take the old state out of the lists
+                if (theirs == 0)
+                    unlink(player, mine, w);
+                if (mine == 0)
+                    unlink(enemy, theirs, w);
+                if (mine == k)
+                    completed[player]--;
+
+                mine += delta;
+                windowCount[player][w] = mine;
+
+                // and put the new state back in
+                if (theirs == 0)
+                    link(player, mine, w);
+                if (mine == 0)
+                    link(enemy, theirs, w);
+                if (mine == k)
+                    completed[player]++;
+            }
+        }
+    }
+
+    /**
+     * Add a window to the front of a player's open list for a stone count.
+     *
+     * @param player X or O
+     * @param count  The number of the player's stones in the window
+     * @param w      The window
+     */
+    private void link(int player, int count, int w) {
+        int first = head[player][count];
+        next[player][w] = first;
+        prev[player][w] = -1;
+        if (first != -1)
+            prev[player][first] = w;
+        head[player][count] = w;
+        openWindows[player][count]++;
+    }
+
+    /**
+     * Take a window out of a player's open list for a stone count.
+     *
+     * @param player X or O
+     * @param count  The number of the player's stones in the window
+     * @param w      The window
+     */
+    private void unlink(int player, int count, int w) {
+        int before = prev[player][w];
+        int after = next[player][w];
+        if (before == -1)
+            head[player][count] = after;
+        else
+            next[player][before] = after;
+        if (after != -1)
+            prev[player][after] = before;
+        openWindows[player][count]--;
+    }
+
+    /**
+     * Return the number of open windows a player has holding exactly the given
+     * number of stones. With count = k - 1 these are the squares that win next
+     * move (fours on a five-in-a-row board); with count = k - 2 they are threes.
+     *
+     * @param player X or O
+     * @param count  The number of stones in the window
+     * @return The number of open windows with that many stones
+     */
+    public int getOpenWindows(int player, int count) {
+        return openWindows[player][count];
+    }
+
+    /**
+     * Return true if the player has completed k in a row somewhere.
+     *
+     * @param player X or O
+     * @return true if the player has won; false otherwise.
+     */
+    public boolean hasWon(int player) {
+        return completed[player] > 0;
+    }
+
+    /**
+     * Return the empty squares that would win the game for a player right now,
+     * that is the gaps in every open window one stone short of k.
+     *
+     * @param player X or O
+     * @return An array of [row, col] squares, possibly with repeats
+     */
+    public int[][] getWinningSquares(int player) {
+        return gapsOf(player, k - 1);
+    }
+
+    /**
+     * Return the empty squares in every open window holding exactly the given
+     * number of the player's stones. Only the windows in that list are visited,
+     * so the cost is O(k) per matching window rather than a scan of the board.
+     *
+     * @param player X or O
+     * @param count  The number of stones in the window
+     * @return An array of [row, col] squares, possibly with repeats
+     */
+    public int[][] gapsOf(int player, int count) {
+        int found = openWindows[player][count] * (k - count);
+        int[][] gaps = new int[found][];
+        if (found == 0)
+            return gaps;
+
+        int n = 0;
+        for (int w = head[player][count]; w != -1; w = next[player][w]) {
+            int d = w / (size * size);
+            int row = (w / size) % size;
+            int col = w % size;
+            for (int i = 0; i < k; i++) {
+                int r = row + DIRECTIONS[d][0] * i;
+                int c = col + DIRECTIONS[d][1] * i;
+                if (cells[r][c] == -1)
+                    gaps[n++] = new int[] { r, c };
+            }
+        }
+        return gaps;
+    }
+
+    /**
+     * Return the stone on a square.
+     *
+     * @param row The row of the square
+     * @param col The column of the square
+     * @return -1 if empty, X or O otherwise
+     */
+    public int getCell(int row, int col) {
+        return cells[row][col];
+    }
+
+    /**
+     * Return the width and height of the board.
+     *
+     * @return The board size
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Return the number of stones in a row needed to win.
+     *
+     * @return The value of k
+     */
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Return the number of stones on the board.
+     *
+     * @return The number of stones placed so far
+     */
+    public int getStones() {
+        return this.stones;
+    }
+
+    // flat index of the window starting at (row, col) in direction d
+    private int window(int d, int row, int col) {
+        return (d * size + row) * size + col;
+    }
+
+    // true if (row, col) is on the board
+    private boolean inside(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+}
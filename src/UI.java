@@ -8,6 +8,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import java.awt.BorderLayout;
 import java.awt.Container;
+import java.awt.GraphicsEnvironment;
 import java.awt.GridLayout;
 
 /**
@@ -19,6 +20,12 @@ import java.awt.GridLayout;
  * It also contains constants for the game name, window dimensions, and image
  * icons for the blank, X, and O cells.
  * 
+ * When running headless (no screen, e.g. under the Simulation driver) no frame
+ * is created; the same components are laid out in a plain panel instead, sized
+ * to the frame's content area less the menu bar. Window decorations can't be
+ * measured without a screen, so headless buttons are a little taller and wider
+ * than on screen.
+ * 
  * @author Arun Karki
  * @version April 2, 2023
  */
@@ -63,15 +70,20 @@ public class UI {
      */
     public UI() {
 
-        frame = new JFrame(GAME_NAME);
+        if (GraphicsEnvironment.isHeadless()) {
+            // no screen to show a frame on; hold everything in a panel instead
+            contentPanel = new JPanel(new BorderLayout());
+        } else {
+            frame = new JFrame(GAME_NAME);
 
-        frame.setResizable(false);
-        frame.setVisible(true);
-        frame.setDefaultCloseOperation(frame.EXIT_ON_CLOSE);
-        frame.pack();
-        frame.setSize(WIDTH, HEIGHT);
+            frame.setResizable(false);
+            frame.setVisible(true);
+            frame.setDefaultCloseOperation(frame.EXIT_ON_CLOSE);
+            frame.pack();
+            frame.setSize(WIDTH, HEIGHT);
 
-        contentPanel = frame.getContentPane();
+            contentPanel = frame.getContentPane();
+        }
 
         buildPanel();
         buildButtons();
@@ -79,6 +91,8 @@ public class UI {
         panel.setLayout(new GridLayout(3, 3));
         buildStatusLabel();
         buildStatsLabel();
+        if (frame == null)
+            layoutHeadless(0);
         // build board
         System.out.println("UI.java compiled");
     }
@@ -92,7 +106,7 @@ public class UI {
         gameStatus = new JLabel();
         gameStatus.setText(" Game Starting: " + GameLogic.DEFAULT_PLAYER + "'s turn");
         // place it at the bottom of the frame
-        frame.add(gameStatus, BorderLayout.SOUTH);
+        contentPanel.add(gameStatus, BorderLayout.SOUTH);
     }
 
     /**
@@ -104,7 +118,7 @@ public class UI {
         gameStatistics.setText(
                 " Statistics:" + STATS_SPACING + "X Wins: 0" + STATS_SPACING + "O Wins: 0" + STATS_SPACING + "Ties: 0");
         // place it at the top of the frame
-        frame.add(gameStatistics, BorderLayout.NORTH);
+        contentPanel.add(gameStatistics, BorderLayout.NORTH);
     }
 
     /**
@@ -117,6 +131,24 @@ public class UI {
         contentPanel.add(panel);
     }
 
+    /**
+     * Return the text of the status label.
+     * 
+     * @return The game's current status
+     */
+    public String getStatus() {
+        return gameStatus.getText();
+    }
+
+    /**
+     * Return the text of the statistics label.
+     * 
+     * @return The game's current stats
+     */
+    public String getStatistics() {
+        return gameStatistics.getText();
+    }
+
     /**
      * Set the text of the label to be the game's current status.
      * 
@@ -156,7 +188,10 @@ public class UI {
         menu.add(quit);
 
         menuBar.add(menu);
-        frame.setJMenuBar(menuBar);
+        if (frame != null)
+            frame.setJMenuBar(menuBar);
+        else
+            layoutHeadless(menuBar.getPreferredSize().height); // the frame would give the bar this space
         return new JMenuItem[] { newGame, firstPlayer, resetStats, quit };
     }
 
@@ -204,10 +239,24 @@ public class UI {
         }
     }
 
+    /**
+     * Lay out the headless panel. Nothing lays out a panel that is never shown,
+     * so size it to the frame's content area and lay out the buttons so the
+     * icons have something to scale to.
+     * 
+     * @param menuHeight The height the menu bar takes from the frame
+     */
+    private void layoutHeadless(int menuHeight) {
+        contentPanel.setSize(WIDTH, HEIGHT - menuHeight);
+        contentPanel.doLayout();
+        panel.doLayout();
+    }
+
     /**
      * Destroy the Frame of the game
      */
     public void terminate() {
-        frame.dispose();
+        if (frame != null)
+            frame.dispose();
     }
 }